@@ -0,0 +1,58 @@
+package com.company.iast.controller;
+
+import com.company.iast.model.RouteShard;
+import com.company.iast.model.ShardResult;
+import com.company.iast.service.ShardCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for coordinator/worker sharded execution.
+ * Only exposed when running with cluster.mode=coordinator.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cluster.mode", havingValue = "coordinator")
+public class ClusterController {
+
+    private final ShardCoordinator shardCoordinator;
+
+    /**
+     * Lease the next pending shard to a worker
+     * POST /api/cluster/lease?workerId=xxx
+     */
+    @PostMapping("/lease")
+    public ResponseEntity<RouteShard> lease(@RequestParam String workerId) {
+        RouteShard shard = shardCoordinator.lease(workerId);
+        return shard != null ? ResponseEntity.ok(shard) : ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Extend a worker's lease on a shard
+     * POST /api/cluster/heartbeat?workerId=xxx&shardId=yyy
+     */
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(@RequestParam String workerId, @RequestParam String shardId) {
+        return shardCoordinator.heartbeat(workerId, shardId)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * Receive a worker's results for a shard
+     * POST /api/cluster/shards/{shardId}/result
+     */
+    @PostMapping("/shards/{shardId}/result")
+    public ResponseEntity<Void> submitResult(@PathVariable String shardId, @RequestBody ShardResult result) {
+        result.setShardId(shardId);
+        return shardCoordinator.complete(result)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -15,7 +15,10 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * #NewCode: Client for connecting to Contrast Security API
@@ -58,6 +61,13 @@ public class ContrastSecurityClient {
      * Tests connectivity and authentication
      */
     public boolean testConnection() {
+        return testConnection(0);
+    }
+
+    /**
+     * Test the connection, with the request timeout capped by a run deadline (0 = none)
+     */
+    public boolean testConnection(long deadlineNanos) {
         try {
             log.info("Connecting to Contrast Security at: {}", apiUrl);
             
@@ -67,7 +77,7 @@ public class ContrastSecurityClient {
                     .header("Authorization", authHeader)
                     .header("API-Key", apiKey)
                     .header("Accept", "application/json")
-                    .timeout(Duration.ofMillis(timeout))
+                    .timeout(requestTimeout(deadlineNanos))
                     .GET()
                     .build();
 
@@ -92,20 +102,38 @@ public class ContrastSecurityClient {
      * Fetches all GET endpoints for the specified service and build
      */
     public List<RouteInfo> retrieveRoutes(String serviceName, String buildNumber) {
+        return retrieveRoutes(serviceName, buildNumber, 0);
+    }
+
+    /**
+     * Retrieve routes, with each request timeout capped by a run deadline (0 = none)
+     */
+    public List<RouteInfo> retrieveRoutes(String serviceName, String buildNumber, long deadlineNanos) {
+        log.info("Retrieving routes for service: {}, build: {}", serviceName, buildNumber);
+
+        // First, get application ID by service name
+        String applicationId = getApplicationId(serviceName, deadlineNanos);
+        if (applicationId == null) {
+            log.error("Application not found for service: {}", serviceName);
+            return new ArrayList<>();
+        }
+
+        log.info("Found application ID: {} for service: {}", applicationId, serviceName);
+        return retrieveRoutesByAppId(applicationId, buildNumber, deadlineNanos);
+    }
+
+    /**
+     * Fetch all GET endpoints for an application whose ID is already known,
+     * skipping the application list lookup
+     */
+    public List<RouteInfo> retrieveRoutesByAppId(String applicationId, String buildNumber) {
+        return retrieveRoutesByAppId(applicationId, buildNumber, 0);
+    }
+
+    private List<RouteInfo> retrieveRoutesByAppId(String applicationId, String buildNumber, long deadlineNanos) {
         List<RouteInfo> routes = new ArrayList<>();
-        
+
         try {
-            log.info("Retrieving routes for service: {}, build: {}", serviceName, buildNumber);
-            
-            // First, get application ID by service name
-            String applicationId = getApplicationId(serviceName);
-            if (applicationId == null) {
-                log.error("Application not found for service: {}", serviceName);
-                return routes;
-            }
-            
-            log.info("Found application ID: {} for service: {}", applicationId, serviceName);
-            
             // Get routes for the application
             String authHeader = createAuthorizationHeader();
             String routesUrl = String.format("%s/ng/%s/traces/%s/routes", 
@@ -116,7 +144,7 @@ public class ContrastSecurityClient {
                     .header("Authorization", authHeader)
                     .header("API-Key", apiKey)
                     .header("Accept", "application/json")
-                    .timeout(Duration.ofMillis(timeout))
+                    .timeout(requestTimeout(deadlineNanos))
                     .GET()
                     .build();
 
@@ -137,10 +165,53 @@ public class ContrastSecurityClient {
         return routes;
     }
 
+    /**
+     * List all applications in the organization as name to application ID
+     * Used to refresh the service and route search indexes
+     */
+    public Map<String, String> listApplications() {
+        Map<String, String> applications = new LinkedHashMap<>();
+
+        try {
+            String authHeader = createAuthorizationHeader();
+            String appsUrl = apiUrl + "/ng/" + organizationId + "/applications";
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(appsUrl))
+                    .header("Authorization", authHeader)
+                    .header("API-Key", apiKey)
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofMillis(timeout))
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() == 200) {
+                JsonNode apps = objectMapper.readTree(response.body()).get("applications");
+
+                if (apps != null && apps.isArray()) {
+                    for (JsonNode app : apps) {
+                        if (app.hasNonNull("name") && app.hasNonNull("app_id")) {
+                            applications.put(app.get("name").asText(), app.get("app_id").asText());
+                        }
+                    }
+                }
+            } else {
+                log.error("Failed to list applications. Status: {}", response.statusCode());
+            }
+
+        } catch (Exception e) {
+            log.error("Error listing applications from Contrast Security", e);
+        }
+
+        return applications;
+    }
+
     /**
      * Get application ID by service name
      */
-    private String getApplicationId(String serviceName) {
+    private String getApplicationId(String serviceName, long deadlineNanos) {
         try {
             String authHeader = createAuthorizationHeader();
             String appsUrl = apiUrl + "/ng/" + organizationId + "/applications";
@@ -150,7 +221,7 @@ public class ContrastSecurityClient {
                     .header("Authorization", authHeader)
                     .header("API-Key", apiKey)
                     .header("Accept", "application/json")
-                    .timeout(Duration.ofMillis(timeout))
+                    .timeout(requestTimeout(deadlineNanos))
                     .GET()
                     .build();
 
@@ -215,6 +286,17 @@ public class ContrastSecurityClient {
         return routes;
     }
 
+    /**
+     * Configured request timeout, shortened to what is left before the deadline (0 = none)
+     */
+    private Duration requestTimeout(long deadlineNanos) {
+        if (deadlineNanos == 0) {
+            return Duration.ofMillis(timeout);
+        }
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        return Duration.ofMillis(Math.max(1, Math.min(timeout, remainingMs)));
+    }
+
     /**
      * Create Basic Authorization header
      */
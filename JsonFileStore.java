@@ -0,0 +1,70 @@
+package com.company.iast.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Optional JSON file used to persist in-memory state between runs.
+ * Writes go to a temp file that is atomically moved into place, so a crash
+ * mid-write never leaves a truncated file behind. A blank file name
+ * disables persistence; I/O failures are logged, never thrown.
+ */
+@Slf4j
+final class JsonFileStore {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path path;
+    private final String description;
+
+    JsonFileStore(String file, String description) {
+        this.path = file == null || file.isBlank() ? null : Paths.get(file);
+        this.description = description;
+    }
+
+    /**
+     * Stored value, or null if persistence is disabled or the file is missing or unreadable
+     */
+    <T> T read(TypeReference<T> type) {
+        if (path == null || !Files.exists(path)) {
+            return null;
+        }
+
+        try {
+            return OBJECT_MAPPER.readValue(path.toFile(), type);
+        } catch (IOException e) {
+            log.warn("Could not read {} from {} - {}", description, path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replace the file contents with the value, if persistence is enabled
+     */
+    void write(Object value) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            OBJECT_MAPPER.writeValue(tmp.toFile(), value);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write {} to {} - {}", description, path, e.getMessage());
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+}
@@ -4,15 +4,19 @@ import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.client.DefaultOpenShiftClient;
-import io.fabric8.openshift.client.OpenShiftClient;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
- * Client for retrieving route URLs from OpenShift Container Platform
+ * Client for retrieving route URLs from OpenShift Container Platform.
+ * Lazy: neither this bean nor the fabric8 client is created until the first
+ * OpenShift call, which keeps fabric8 class loading out of application startup.
  */
 @Slf4j
+@Lazy
 @Component
 public class OpenShiftClient {
 
@@ -25,39 +29,32 @@ public class OpenShiftClient {
     @Value("${openshift.namespace}")
     private String namespace;
 
+    private volatile io.fabric8.openshift.client.OpenShiftClient client;
+
     /**
      * Get route URL for a service from OpenShift
      */
     public String getRouteUrl(String serviceName) {
         try {
             log.info("Retrieving route URL for service: {} from OpenShift", serviceName);
-            
-            Config config = new ConfigBuilder()
-                    .withMasterUrl(apiUrl)
-                    .withOauthToken(token)
-                    .withTrustCerts(true)
-                    .withNamespace(namespace)
-                    .build();
 
-            try (OpenShiftClient client = new DefaultOpenShiftClient(config)) {
-                // Try to find route by service name
-                Route route = client.routes()
-                        .inNamespace(namespace)
-                        .withName(serviceName)
-                        .get();
+            // Try to find route by service name
+            Route route = client().routes()
+                    .inNamespace(namespace)
+                    .withName(serviceName)
+                    .get();
 
-                if (route != null && route.getSpec() != null) {
-                    String host = route.getSpec().getHost();
-                    String protocol = route.getSpec().getTls() != null ? "https" : "http";
-                    String routeUrl = protocol + "://" + host;
-                    
-                    log.info("Found route URL: {} for service: {}", routeUrl, serviceName);
-                    return routeUrl;
-                }
+            if (route != null && route.getSpec() != null) {
+                String host = route.getSpec().getHost();
+                String protocol = route.getSpec().getTls() != null ? "https" : "http";
+                String routeUrl = protocol + "://" + host;
                 
-                log.warn("No route found for service: {}", serviceName);
+                log.info("Found route URL: {} for service: {}", routeUrl, serviceName);
+                return routeUrl;
             }
             
+            log.warn("No route found for service: {}", serviceName);
+            
         } catch (Exception e) {
             log.error("Error retrieving route from OpenShift", e);
         }
@@ -71,23 +68,46 @@ public class OpenShiftClient {
     public boolean testConnection() {
         try {
             log.info("Testing connection to OpenShift at: {}", apiUrl);
-            
-            Config config = new ConfigBuilder()
-                    .withMasterUrl(apiUrl)
-                    .withOauthToken(token)
-                    .withTrustCerts(true)
-                    .build();
 
-            try (OpenShiftClient client = new DefaultOpenShiftClient(config)) {
-                // Try to list namespaces as a connection test
-                client.namespaces().list();
-                log.info("Successfully connected to OpenShift");
-                return true;
-            }
+            // Try to list namespaces as a connection test
+            client().namespaces().list();
+            log.info("Successfully connected to OpenShift");
+            return true;
             
         } catch (Exception e) {
             log.error("Failed to connect to OpenShift", e);
             return false;
         }
     }
+
+    @PreDestroy
+    public void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Shared fabric8 client, built on first use
+     */
+    private io.fabric8.openshift.client.OpenShiftClient client() {
+        io.fabric8.openshift.client.OpenShiftClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    log.info("Initializing OpenShift client for {}", apiUrl);
+                    Config config = new ConfigBuilder()
+                            .withMasterUrl(apiUrl)
+                            .withOauthToken(token)
+                            .withTrustCerts(true)
+                            .withNamespace(namespace)
+                            .build();
+                    current = new DefaultOpenShiftClient(config);
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
 }
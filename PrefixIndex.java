@@ -0,0 +1,112 @@
+package com.company.iast.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable case-insensitive prefix index over a set of names, backed by
+ * sorted arrays searched with binary search. Names are matched from their
+ * start first, then from the start of any later word (after '-', '_', '/',
+ * '.' or ' '), so "mgmt" finds "mgmt-api" before "user-mgmt-service".
+ * A search costs O(log n + k) for k results.
+ */
+public final class PrefixIndex {
+
+    private static final PrefixIndex EMPTY = of(List.of());
+
+    // Whole names, sorted by lower-cased name
+    private final String[] nameKeys;
+    private final String[] names;
+
+    // Inner word suffixes, sorted by lower-cased suffix, with the owning name
+    private final String[] wordKeys;
+    private final String[] wordNames;
+
+    private PrefixIndex(List<String[]> nameEntries, List<String[]> wordEntries) {
+        this.nameKeys = nameEntries.stream().map(entry -> entry[0]).toArray(String[]::new);
+        this.names = nameEntries.stream().map(entry -> entry[1]).toArray(String[]::new);
+        this.wordKeys = wordEntries.stream().map(entry -> entry[0]).toArray(String[]::new);
+        this.wordNames = wordEntries.stream().map(entry -> entry[1]).toArray(String[]::new);
+    }
+
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build an index over the given names
+     */
+    public static PrefixIndex of(Collection<String> values) {
+        List<String[]> nameEntries = new ArrayList<>();
+        List<String[]> wordEntries = new ArrayList<>();
+
+        for (String name : new LinkedHashSet<>(values)) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            nameEntries.add(new String[] {lower, name});
+            for (int i = 1; i < lower.length(); i++) {
+                if (isSeparator(lower.charAt(i - 1)) && !isSeparator(lower.charAt(i))) {
+                    wordEntries.add(new String[] {lower.substring(i), name});
+                }
+            }
+        }
+
+        // Ties on key fall back to the name so results are stable
+        Comparator<String[]> order = Comparator.<String[], String>comparing(entry -> entry[0])
+                .thenComparing(entry -> entry[1]);
+        nameEntries.sort(order);
+        wordEntries.sort(order);
+        return new PrefixIndex(nameEntries, wordEntries);
+    }
+
+    /**
+     * Up to {@code limit} distinct names with a word starting with the prefix
+     */
+    public List<String> search(String prefix, int limit) {
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        Set<String> results = new LinkedHashSet<>();
+
+        for (int i = lowerBound(nameKeys, lower);
+             i < nameKeys.length && results.size() < limit && nameKeys[i].startsWith(lower); i++) {
+            results.add(names[i]);
+        }
+        for (int i = lowerBound(wordKeys, lower);
+             i < wordKeys.length && results.size() < limit && wordKeys[i].startsWith(lower); i++) {
+            results.add(wordNames[i]);
+        }
+
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Number of distinct names in the index
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * First index whose key is not less than the prefix
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == '_' || c == '/' || c == '.' || c == ' ';
+    }
+}
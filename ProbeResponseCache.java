@@ -0,0 +1,122 @@
+package com.company.iast.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of response validators (ETag, Last-Modified) and body
+ * fingerprints per (base URL, route), used to send conditional GETs on
+ * repeat probes. Optionally persisted to a JSON file between runs.
+ */
+@Slf4j
+@Component
+public class ProbeResponseCache {
+
+    @Value("${route.testing.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${route.testing.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${route.testing.cache.file:}")
+    private String cacheFile;
+
+    private JsonFileStore store;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Validators and fingerprint of the last successful response for a route
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String etag;
+        private String lastModified;
+        private String fingerprint;
+    }
+
+    /**
+     * Load previously persisted entries, if a cache file is configured
+     */
+    @PostConstruct
+    public void load() {
+        store = new JsonFileStore(enabled ? cacheFile : null, "probe response cache");
+        Map<String, Entry> stored = store.read(new TypeReference<LinkedHashMap<String, Entry>>() {});
+        if (stored != null) {
+            synchronized (entries) {
+                entries.putAll(stored);
+            }
+            log.info("Loaded {} cached probe responses from {}", stored.size(), store.getPath());
+        }
+    }
+
+    /**
+     * Write the current entries to disk, if a cache file is configured
+     */
+    public void save() {
+        Map<String, Entry> snapshot;
+        synchronized (entries) {
+            snapshot = new LinkedHashMap<>(entries);
+        }
+        store.write(snapshot);
+    }
+
+    /**
+     * Cached entry for a route, or null if caching is disabled or nothing is cached
+     */
+    public Entry get(String baseUrl, String routePath) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            return entries.get(key(baseUrl, routePath));
+        }
+    }
+
+    /**
+     * Store validators and fingerprint of a successful response
+     */
+    public void put(String baseUrl, String routePath, Entry entry) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key(baseUrl, routePath), entry);
+        }
+    }
+
+    /**
+     * SHA-256 fingerprint of a response body
+     */
+    public static String fingerprint(byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String key(String baseUrl, String routePath) {
+        return baseUrl + " " + routePath;
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.iast.service;
+
+import com.company.iast.model.RouteInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route latency history used to order probes longest-expected-first.
+ * Keeps an exponentially weighted moving average of response times per
+ * (base URL, route) in memory, optionally persisted to a JSON file.
+ */
+@Slf4j
+@Component
+public class RouteLatencyHistory {
+
+    @Value("${route.testing.history.file:}")
+    private String historyFile;
+
+    @Value("${route.testing.history.alpha:0.3}")
+    private double alpha;
+
+    @Value("${route.testing.history.max-entries:10000}")
+    private int maxEntries;
+
+    // Access-ordered so the least recently probed routes are evicted first; guarded by itself
+    private final LinkedHashMap<String, Double> expectedMs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private JsonFileStore store;
+
+    /**
+     * Load previously persisted history, if a history file is configured
+     */
+    @PostConstruct
+    public void load() {
+        store = new JsonFileStore(historyFile, "latency history");
+        Map<String, Double> stored = store.read(new TypeReference<LinkedHashMap<String, Double>>() {});
+        if (stored != null) {
+            synchronized (expectedMs) {
+                expectedMs.putAll(stored);
+            }
+            log.info("Loaded latency history for {} routes from {}", stored.size(), store.getPath());
+        }
+    }
+
+    /**
+     * Write the current history to disk, if a history file is configured
+     */
+    public void save() {
+        Map<String, Double> snapshot;
+        synchronized (expectedMs) {
+            snapshot = new LinkedHashMap<>(expectedMs);
+        }
+        store.write(snapshot);
+    }
+
+    /**
+     * Fold an observed response time into the moving average for a route
+     */
+    public void record(String baseUrl, String routePath, long responseTimeMs) {
+        synchronized (expectedMs) {
+            expectedMs.merge(key(baseUrl, routePath), (double) responseTimeMs,
+                    (previous, observed) -> alpha * observed + (1 - alpha) * previous);
+        }
+    }
+
+    /**
+     * Expected response time for a route, or null if it has never been probed
+     */
+    public Double expectedMs(String baseUrl, String routePath) {
+        synchronized (expectedMs) {
+            return expectedMs.get(key(baseUrl, routePath));
+        }
+    }
+
+    /**
+     * Order routes for dispatch: routes with history go longest-expected-first
+     * (LPT scheduling), routes without history are spread evenly between them
+     * so that unknown stragglers do not all land at the tail of the run.
+     */
+    public List<RouteInfo> orderForDispatch(List<RouteInfo> routes, String baseUrl) {
+        List<RouteInfo> known = new ArrayList<>();
+        List<RouteInfo> unknown = new ArrayList<>();
+        // Snapshot estimates so concurrent runs cannot change them mid-sort
+        Map<String, Double> estimates = new HashMap<>();
+
+        for (RouteInfo route : routes) {
+            Double expected = expectedMs(baseUrl, route.getPath());
+            if (expected != null) {
+                estimates.put(route.getPath(), expected);
+                known.add(route);
+            } else {
+                unknown.add(route);
+            }
+        }
+
+        known.sort(Comparator.comparingDouble(
+                (RouteInfo route) -> estimates.get(route.getPath())).reversed());
+
+        if (known.isEmpty() || unknown.isEmpty()) {
+            known.addAll(unknown);
+            return known;
+        }
+
+        // Interleave: one unknown route after every `stride` known routes
+        List<RouteInfo> ordered = new ArrayList<>(routes.size());
+        double stride = (double) known.size() / unknown.size();
+        int unknownIndex = 0;
+        for (int i = 0; i < known.size(); i++) {
+            ordered.add(known.get(i));
+            while (unknownIndex < unknown.size() && (unknownIndex + 0.5) * stride <= i + 1) {
+                ordered.add(unknown.get(unknownIndex++));
+            }
+        }
+        while (unknownIndex < unknown.size()) {
+            ordered.add(unknown.get(unknownIndex++));
+        }
+
+        return ordered;
+    }
+
+    private String key(String baseUrl, String routePath) {
+        return baseUrl + " " + routePath;
+    }
+}
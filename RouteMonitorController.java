@@ -2,17 +2,29 @@ package com.company.iast.controller;
 
 import com.company.iast.client.ContrastSecurityClient;
 import com.company.iast.client.OpenShiftClient;
+import com.company.iast.model.RouteTestResult;
 import com.company.iast.model.TestRequest;
 import com.company.iast.model.TestResponse;
+import com.company.iast.service.RouteTestListener;
 import com.company.iast.service.RouteTestingService;
+import com.company.iast.service.SearchIndexService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,7 +39,15 @@ public class RouteMonitorController {
 
     private final RouteTestingService routeTestingService;
     private final ContrastSecurityClient contrastClient;
-    private final OpenShiftClient openShiftClient;
+    private final ObjectProvider<OpenShiftClient> openShiftClient; // Lazy, created on first use
+    private final SearchIndexService searchIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${route.testing.time-budget:0}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${route.testing.stream-time-budget:600000}")
+    private long streamTimeBudgetMs;
 
     /**
      * Main endpoint to execute all route tests
@@ -54,6 +74,67 @@ public class RouteMonitorController {
         }
     }
 
+    /**
+     * Execute all route tests, streaming progress as newline-delimited JSON.
+     * Emits a "routes" event with the route count, one "result" event per
+     * route as it completes, then a "summary" event (without the results list).
+     * The run budget is capped at route.testing.stream-time-budget so the
+     * stream ends before the async request timeout.
+     * POST /api/test/stream
+     */
+    @PostMapping(value = "/test/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> testRoutesStream(@Valid @RequestBody TestRequest request) {
+        log.info("Received streaming test request for service: {}, build: {}",
+                request.getServiceName(), request.getBuildNumber());
+
+        long requestedBudgetMs = request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+        if (requestedBudgetMs <= 0 || requestedBudgetMs > streamTimeBudgetMs) {
+            requestedBudgetMs = streamTimeBudgetMs;
+        }
+        request.setTimeBudgetMs(requestedBudgetMs);
+
+        StreamingResponseBody body = out -> {
+            try {
+                TestResponse response = routeTestingService.executeRouteTests(request, new RouteTestListener() {
+                    @Override
+                    public void onRoutesRetrieved(int totalRoutes) {
+                        writeEvent(out, Map.of("type", "routes", "totalRoutes", totalRoutes));
+                    }
+
+                    @Override
+                    public void onResult(RouteTestResult result) {
+                        writeEvent(out, Map.of("type", "result", "result", result));
+                    }
+                });
+                response.setResults(null);
+                writeEvent(out, Map.of("type", "summary", "response", response));
+            } catch (UncheckedIOException e) {
+                log.warn("Client disconnected from result stream - {}", e.getMessage());
+            } catch (Exception e) {
+                log.error("Error executing route tests", e);
+                writeEvent(out, Map.of("type", "error",
+                        "message", e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Write one NDJSON event and flush so the client sees it immediately
+     */
+    private void writeEvent(OutputStream out, Map<String, Object> event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Test connection to Contrast Security
      * GET /api/contrast/test-connection
@@ -83,7 +164,7 @@ public class RouteMonitorController {
         log.info("Retrieving route URL for service: {} from OpenShift", serviceName);
         
         Map<String, Object> response = new HashMap<>();
-        String routeUrl = openShiftClient.getRouteUrl(serviceName);
+        String routeUrl = openShiftClient.getObject().getRouteUrl(serviceName);
         
         if (routeUrl != null) {
             response.put("success", true);
@@ -97,6 +178,37 @@ public class RouteMonitorController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Prefix search for service and route autocomplete
+     * GET /api/search?q=xxx&type=service|route&serviceName=xxx&limit=10
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "service") String type,
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        Map<String, Object> response = new HashMap<>();
+        int cappedLimit = Math.max(1, Math.min(limit, 100));
+
+        List<String> matches;
+        if ("route".equalsIgnoreCase(type)) {
+            if (serviceName == null || serviceName.isBlank()) {
+                response.put("message", "serviceName is required for route search");
+                return ResponseEntity.badRequest().body(response);
+            }
+            matches = searchIndex.searchRoutes(serviceName, q, cappedLimit);
+        } else {
+            matches = searchIndex.searchServices(q, cappedLimit);
+        }
+
+        response.put("query", q);
+        response.put("type", type);
+        response.put("matches", matches);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Health check endpoint
      * GET /api/health
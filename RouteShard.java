@@ -0,0 +1,23 @@
+package com.company.iast.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of a run's routes leased by the coordinator to a worker instance
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteShard {
+    private String runId;
+    private String shardId;
+    private String baseUrl;
+    private List<RouteInfo> routes;
+    private long timeBudgetMs; // Remaining run budget at lease time, 0 = unbounded
+}
@@ -0,0 +1,25 @@
+package com.company.iast.service;
+
+import com.company.iast.model.RouteTestResult;
+
+/**
+ * Callback for consuming a run's progress incrementally, e.g. to stream
+ * results to the UI as each probe completes. Called on the thread that
+ * executes the run, one event at a time.
+ */
+public interface RouteTestListener {
+
+    RouteTestListener NONE = new RouteTestListener() {};
+
+    /**
+     * Routes have been retrieved and probing is about to start
+     */
+    default void onRoutesRetrieved(int totalRoutes) {
+    }
+
+    /**
+     * A single route result is available
+     */
+    default void onResult(RouteTestResult result) {
+    }
+}
@@ -20,4 +20,6 @@ public class RouteTestResult {
     private long responseTimeMs;
     private boolean success;
     private String errorMessage;
+    private boolean skipped; // Not probed before the run time budget ran out
+    private Boolean contentChanged; // Null on first probe, false on 304 or identical body
 }
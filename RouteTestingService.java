@@ -14,12 +14,21 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * #NewCode: Service that orchestrates the 3-step route testing process
@@ -33,6 +42,10 @@ import java.util.concurrent.Executors;
 public class RouteTestingService {
 
     private final ContrastSecurityClient contrastClient;
+    private final RouteLatencyHistory latencyHistory;
+    private final ProbeResponseCache responseCache;
+    private final ShardCoordinator shardCoordinator;
+    private final SearchIndexService searchIndex;
 
     @Value("${route.testing.timeout}")
     private int routeTimeout;
@@ -43,6 +56,9 @@ public class RouteTestingService {
     @Value("${route.testing.retry-attempts}")
     private int retryAttempts;
 
+    @Value("${route.testing.time-budget:0}")
+    private long defaultTimeBudgetMs;
+
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(30))
             .build();
@@ -51,16 +67,31 @@ public class RouteTestingService {
      * #NewCode: Main method to execute all 3 steps
      */
     public TestResponse executeRouteTests(TestRequest request) {
+        return executeRouteTests(request, RouteTestListener.NONE);
+    }
+
+    /**
+     * Execute all 3 steps, reporting each route result to the listener as it completes
+     */
+    public TestResponse executeRouteTests(TestRequest request, RouteTestListener listener) {
         long startTime = System.currentTimeMillis();
+        long timeBudgetMs = request.getTimeBudgetMs() != null
+                ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+        // Deadline for the whole run, 0 means unbounded
+        long deadlineNanos = timeBudgetMs > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs) : 0;
         
         log.info("Starting route testing for service: {}, build: {}", 
                 request.getServiceName(), request.getBuildNumber());
 
         // Step 1: Establish Connection to Contrast Security
         log.info("Step 1: Establishing connection to Contrast Security...");
-        boolean connected = contrastClient.testConnection();
+        // Steps 1-2 count against the run budget: Contrast calls are capped by the deadline
+        boolean connected = contrastClient.testConnection(deadlineNanos);
         if (!connected) {
-            throw new RuntimeException("Failed to connect to Contrast Security");
+            throw new RuntimeException(budgetExhausted(deadlineNanos)
+                    ? "Run time budget exhausted while connecting to Contrast Security"
+                    : "Failed to connect to Contrast Security");
         }
         log.info("Step 1: Successfully connected to Contrast Security");
 
@@ -69,9 +100,11 @@ public class RouteTestingService {
                 request.getServiceName(), request.getBuildNumber());
         List<RouteInfo> routes = contrastClient.retrieveRoutes(
                 request.getServiceName(), 
-                request.getBuildNumber()
+                request.getBuildNumber(),
+                deadlineNanos
         );
         log.info("Step 2: Retrieved {} routes", routes.size());
+        searchIndex.indexRoutes(request.getServiceName(), routes);
 
         if (routes.isEmpty()) {
             log.warn("No routes found for service: {}, build: {}", 
@@ -81,13 +114,42 @@ public class RouteTestingService {
         // Step 3: Test All Endpoints
         log.info("Step 3: Testing {} endpoints at base URL: {}", 
                 routes.size(), request.getBaseRouteUrl());
-        List<RouteTestResult> results = testAllRoutes(routes, request.getBaseRouteUrl());
+        listener.onRoutesRetrieved(routes.size());
+        List<RouteTestResult> results;
+        boolean exhaustedBeforeProbing = budgetExhausted(deadlineNanos);
+        if (exhaustedBeforeProbing) {
+            log.warn("Time budget of {} ms used up before step 3, skipping all {} routes",
+                    timeBudgetMs, routes.size());
+            results = new ArrayList<>();
+            for (RouteInfo route : routes) {
+                RouteTestResult skipped = skippedResult(route, request.getBaseRouteUrl());
+                results.add(skipped);
+                listener.onResult(skipped);
+            }
+        } else if (shardCoordinator.isEnabled()) {
+            try {
+                results = shardCoordinator.execute(routes, request.getBaseRouteUrl(), deadlineNanos, listener);
+            } catch (ShardCoordinator.NoWorkersException e) {
+                log.warn("{}, testing {} routes locally", e.getMessage(), e.getWithdrawnRoutes().size());
+                results = new ArrayList<>(e.getCompletedResults());
+                results.addAll(testAllRoutes(
+                        e.getWithdrawnRoutes(), request.getBaseRouteUrl(), deadlineNanos, listener));
+            }
+        } else {
+            results = testAllRoutes(routes, request.getBaseRouteUrl(), deadlineNanos, listener);
+        }
         log.info("Step 3: Completed testing all endpoints");
 
         // Calculate statistics
         long totalDuration = System.currentTimeMillis() - startTime;
         int passedCount = (int) results.stream().filter(RouteTestResult::isSuccess).count();
-        int failedCount = results.size() - passedCount;
+        int skippedCount = (int) results.stream().filter(RouteTestResult::isSkipped).count();
+        int failedCount = results.size() - passedCount - skippedCount;
+
+        if (skippedCount > 0) {
+            log.warn("Time budget of {} ms reached, {} of {} routes skipped",
+                    timeBudgetMs, skippedCount, routes.size());
+        }
 
         return TestResponse.builder()
                 .serviceName(request.getServiceName())
@@ -95,6 +157,8 @@ public class RouteTestingService {
                 .totalRoutes(routes.size())
                 .passedRoutes(passedCount)
                 .failedRoutes(failedCount)
+                .skippedRoutes(skippedCount)
+                .partial(skippedCount > 0 || exhaustedBeforeProbing)
                 .results(results)
                 .totalDurationMs(totalDuration)
                 .build();
@@ -102,44 +166,115 @@ public class RouteTestingService {
 
     /**
      * #NewCode: Step 3 - Test all routes with concurrent execution
+     * Routes are dispatched longest-expected-first based on latency history.
+     * Results are collected in completion order; once the run deadline passes,
+     * in-flight probes are cancelled and unfinished routes are marked as skipped.
+     * Also used by {@link ShardWorker} to probe a leased shard.
      */
-    private List<RouteTestResult> testAllRoutes(List<RouteInfo> routes, String baseUrl) {
+    List<RouteTestResult> testAllRoutes(List<RouteInfo> routes, String baseUrl, long deadlineNanos,
+                                        RouteTestListener listener) {
         List<RouteTestResult> results = new ArrayList<>();
         ExecutorService executor = Executors.newFixedThreadPool(maxConcurrent);
+        CompletionService<RouteTestResult> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<RouteTestResult>, RouteInfo> pending = new LinkedHashMap<>();
+        Set<Future<RouteTestResult>> completedBeforeCancel = new HashSet<>();
 
         try {
-            List<CompletableFuture<RouteTestResult>> futures = new ArrayList<>();
+            List<RouteInfo> dispatchOrder = latencyHistory.orderForDispatch(routes, baseUrl);
+            logDispatchOrder(dispatchOrder, baseUrl);
 
-            for (RouteInfo route : routes) {
-                CompletableFuture<RouteTestResult> future = CompletableFuture.supplyAsync(
-                        () -> testSingleRoute(route, baseUrl),
-                        executor
-                );
-                futures.add(future);
+            for (RouteInfo route : dispatchOrder) {
+                Future<RouteTestResult> future = completionService.submit(
+                        () -> testSingleRoute(route, baseUrl, deadlineNanos));
+                pending.put(future, route);
             }
 
-            // Wait for all tests to complete
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-
-            // Collect results
-            for (CompletableFuture<RouteTestResult> future : futures) {
-                results.add(future.get());
+            // Collect results as each probe completes
+            while (!pending.isEmpty()) {
+                Future<RouteTestResult> future;
+                if (deadlineNanos == 0) {
+                    future = completionService.take();
+                } else {
+                    long remainingNanos = deadlineNanos - System.nanoTime();
+                    future = remainingNanos > 0
+                            ? completionService.poll(remainingNanos, TimeUnit.NANOSECONDS)
+                            : completionService.poll();
+                    if (future == null) {
+                        break;
+                    }
+                }
+
+                RouteTestResult result = completedResult(future, pending.remove(future), baseUrl);
+                results.add(result);
+                listener.onResult(result);
             }
 
-        } catch (Exception e) {
-            log.error("Error testing routes", e);
+        } catch (InterruptedException e) {
+            log.warn("Route testing interrupted, returning partial results");
+            Thread.currentThread().interrupt();
         } finally {
-            executor.shutdown();
+            // Cancel in-flight probes and drop queued ones once the deadline is hit.
+            // A failed cancel on a non-cancelled future means the probe finished first.
+            for (Future<RouteTestResult> future : pending.keySet()) {
+                if (!future.cancel(true) && !future.isCancelled()) {
+                    completedBeforeCancel.add(future);
+                }
+            }
+            executor.shutdownNow();
+            latencyHistory.save();
+            responseCache.save();
+        }
+
+        for (Map.Entry<Future<RouteTestResult>, RouteInfo> entry : pending.entrySet()) {
+            RouteTestResult result = completedBeforeCancel.contains(entry.getKey())
+                    ? completedResult(entry.getKey(), entry.getValue(), baseUrl)
+                    : skippedResult(entry.getValue(), baseUrl);
+            results.add(result);
+            listener.onResult(result);
         }
 
         return results;
     }
 
+    /**
+     * Result of a probe future that has already completed
+     */
+    private RouteTestResult completedResult(Future<RouteTestResult> future, RouteInfo route, String baseUrl) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error("Error testing route: {}", route.getPath(), e.getCause());
+            return errorResult(route, baseUrl, 0, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return skippedResult(route, baseUrl);
+        }
+    }
+
+    /**
+     * Log the probe dispatch order with expected latencies for later analysis
+     */
+    private void logDispatchOrder(List<RouteInfo> dispatchOrder, String baseUrl) {
+        long known = dispatchOrder.stream()
+                .filter(route -> latencyHistory.expectedMs(baseUrl, route.getPath()) != null)
+                .count();
+        log.info("Dispatching {} routes ({} with latency history, {} unknown) with concurrency {}",
+                dispatchOrder.size(), known, dispatchOrder.size() - known, maxConcurrent);
+
+        for (int i = 0; i < dispatchOrder.size(); i++) {
+            String path = dispatchOrder.get(i).getPath();
+            Double expected = latencyHistory.expectedMs(baseUrl, path);
+            log.debug("Dispatch order [{}]: {} (expected {})",
+                    i + 1, path, expected != null ? Math.round(expected) + " ms" : "unknown");
+        }
+    }
+
     /**
      * #NewCode: Test a single route endpoint
-     * Makes HTTP GET request and captures response
+     * Makes HTTP GET request and captures response. Repeat probes send
+     * conditional headers from the response cache; 304 counts as a pass.
      */
-    private RouteTestResult testSingleRoute(RouteInfo route, String baseUrl) {
+    private RouteTestResult testSingleRoute(RouteInfo route, String baseUrl, long deadlineNanos) {
         String fullUrl = baseUrl + route.getPath();
         long startTime = System.currentTimeMillis();
         
@@ -153,19 +288,27 @@ public class RouteTestingService {
             // Replace path parameters with sample values
             String testUrl = replaceDynamicParameters(fullUrl);
             
-            HttpRequest request = HttpRequest.newBuilder()
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                     .uri(URI.create(testUrl))
                     .header("Accept", "application/json")
                     .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .timeout(Duration.ofMillis(routeTimeout))
-                    .GET()
-                    .build();
+                    .timeout(Duration.ofMillis(effectiveTimeout(deadlineNanos)))
+                    .GET();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ProbeResponseCache.Entry cached = responseCache.get(baseUrl, route.getPath());
+            if (cached != null && cached.getEtag() != null) {
+                requestBuilder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                requestBuilder.header("If-Modified-Since", cached.getLastModified());
+            }
+
+            HttpResponse<byte[]> response = httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofByteArray());
             long responseTime = System.currentTimeMillis() - startTime;
 
             int statusCode = response.statusCode();
-            boolean success = statusCode >= 200 && statusCode < 300;
+            boolean notModified = statusCode == 304 && cached != null;
+            boolean success = notModified || (statusCode >= 200 && statusCode < 300);
 
             resultBuilder
                     .statusCode(statusCode)
@@ -173,6 +316,25 @@ public class RouteTestingService {
                     .responseTimeMs(responseTime)
                     .success(success);
 
+            if (notModified) {
+                resultBuilder.contentChanged(false);
+                // A 304 carries the current validators; refresh them and keep the body fingerprint
+                responseCache.put(baseUrl, route.getPath(), new ProbeResponseCache.Entry(
+                        response.headers().firstValue("ETag").orElse(cached.getEtag()),
+                        response.headers().firstValue("Last-Modified").orElse(cached.getLastModified()),
+                        cached.getFingerprint()));
+            } else if (success) {
+                String fingerprint = ProbeResponseCache.fingerprint(response.body());
+                if (cached != null) {
+                    resultBuilder.contentChanged(!fingerprint.equals(cached.getFingerprint()));
+                }
+                responseCache.put(baseUrl, route.getPath(), new ProbeResponseCache.Entry(
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null),
+                        fingerprint));
+            }
+            latencyHistory.record(baseUrl, route.getPath(), responseTime);
+
             if (success) {
                 log.debug("Route test passed: {} - {} ({} ms)", 
                         route.getPath(), statusCode, responseTime);
@@ -181,21 +343,70 @@ public class RouteTestingService {
                         route.getPath(), statusCode, responseTime);
             }
 
+        } catch (InterruptedException e) {
+            // Cancelled by the run deadline; the truncated time is not a real latency sample
+            Thread.currentThread().interrupt();
+            return skippedResult(route, baseUrl);
+
         } catch (Exception e) {
+            if (e instanceof HttpTimeoutException && deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0) {
+                // Timed out only because the probe timeout was capped at the run deadline
+                return skippedResult(route, baseUrl);
+            }
             long responseTime = System.currentTimeMillis() - startTime;
             log.error("Error testing route: {} - {}", route.getPath(), e.getMessage());
-            
-            resultBuilder
-                    .statusCode(0)
-                    .statusMessage("Error")
-                    .responseTimeMs(responseTime)
-                    .success(false)
-                    .errorMessage(e.getMessage());
+            latencyHistory.record(baseUrl, route.getPath(), responseTime);
+            return errorResult(route, baseUrl, responseTime, e);
         }
 
         return resultBuilder.build();
     }
 
+    /**
+     * Per-probe timeout, capped so that no probe outlives the run deadline
+     */
+    private long effectiveTimeout(long deadlineNanos) {
+        if (deadlineNanos == 0) {
+            return routeTimeout;
+        }
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        return Math.max(1, Math.min(routeTimeout, remainingMs));
+    }
+
+    private boolean budgetExhausted(long deadlineNanos) {
+        return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Result for a route whose probe failed with an exception
+     */
+    private RouteTestResult errorResult(RouteInfo route, String baseUrl, long responseTime, Throwable error) {
+        return RouteTestResult.builder()
+                .route(route.getPath())
+                .url(baseUrl + route.getPath())
+                .statusCode(0)
+                .statusMessage("Error")
+                .responseTimeMs(responseTime)
+                .success(false)
+                .errorMessage(error.getMessage())
+                .build();
+    }
+
+    /**
+     * Result for a route that was not probed before the run deadline
+     */
+    static RouteTestResult skippedResult(RouteInfo route, String baseUrl) {
+        return RouteTestResult.builder()
+                .route(route.getPath())
+                .url(baseUrl + route.getPath())
+                .statusCode(0)
+                .statusMessage("Skipped")
+                .success(false)
+                .skipped(true)
+                .errorMessage("Run time budget exceeded")
+                .build();
+    }
+
     /**
      * Replace dynamic path parameters with sample values
      * Example: /api/users/{id} -> /api/users/1
@@ -220,6 +431,7 @@ public class RouteTestingService {
             case 200 -> "OK";
             case 201 -> "Created";
             case 204 -> "No Content";
+            case 304 -> "Not Modified";
             case 400 -> "Bad Request";
             case 401 -> "Unauthorized";
             case 403 -> "Forbidden";
@@ -0,0 +1,165 @@
+package com.company.iast.service;
+
+import com.company.iast.client.ContrastSecurityClient;
+import com.company.iast.model.RouteInfo;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory search index for service and route autocomplete.
+ * Application names and IDs are refreshed from Contrast Security in the
+ * background, together with the route templates of every indexed service.
+ * Route templates are also indexed as routes are retrieved for runs; the
+ * first route search for a service starts a background fetch of its routes.
+ * Searches never wait on Contrast Security.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    private final ContrastSecurityClient contrastClient;
+
+    @Value("${search.refresh-interval:300000}")
+    private long refreshIntervalMs;
+
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    private record Application(String name, String appId) {}
+
+    private record RouteIndex(String serviceName, PrefixIndex index) {}
+
+    private volatile PrefixIndex serviceIndex = PrefixIndex.empty();
+    // Keyed by lower-cased service name
+    private volatile Map<String, Application> applications = Map.of();
+    private final Map<String, RouteIndex> routeIndexes = new ConcurrentHashMap<>();
+    private final Set<String> pendingRouteLoads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start background refresh of application names once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefresh() {
+        refreshExecutor.scheduleWithFixedDelay(this::refreshServices,
+                0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopRefresh() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Rebuild the service index from Contrast Security and swap it in,
+     * then refresh route templates of every service with a route index.
+     * Uses one application list download for all of them.
+     */
+    public void refreshServices() {
+        try {
+            long start = System.currentTimeMillis();
+            Map<String, String> appIds = contrastClient.listApplications();
+            if (appIds.isEmpty()) {
+                // Keep the previous index rather than blanking autocomplete on a failed fetch
+                log.warn("No applications returned from Contrast Security, keeping {} indexed services",
+                        serviceIndex.size());
+                return;
+            }
+
+            Map<String, Application> byKey = new HashMap<>();
+            appIds.forEach((name, appId) -> byKey.put(serviceKey(name), new Application(name, appId)));
+            applications = byKey;
+            serviceIndex = PrefixIndex.of(appIds.keySet());
+            log.info("Indexed {} services for search in {} ms",
+                    serviceIndex.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error refreshing service search index", e);
+        }
+
+        for (String key : List.copyOf(routeIndexes.keySet())) {
+            loadRoutes(key);
+        }
+    }
+
+    /**
+     * Index the route templates retrieved for a service
+     */
+    public void indexRoutes(String serviceName, List<RouteInfo> routes) {
+        if (routes.isEmpty()) {
+            return;
+        }
+        Application app = applications.get(serviceKey(serviceName));
+        routeIndexes.put(serviceKey(serviceName), new RouteIndex(app != null ? app.name() : serviceName,
+                PrefixIndex.of(routes.stream().map(RouteInfo::getPath).toList())));
+    }
+
+    /**
+     * Top matching service names for a prefix
+     */
+    public List<String> searchServices(String prefix, int limit) {
+        return serviceIndex.search(prefix, limit);
+    }
+
+    /**
+     * Top matching route templates for a prefix within one service.
+     * For a known service without a route index this starts a background
+     * fetch of its routes and returns no matches until it completes.
+     */
+    public List<String> searchRoutes(String serviceName, String prefix, int limit) {
+        String key = serviceKey(serviceName);
+        RouteIndex routeIndex = routeIndexes.get(key);
+        if (routeIndex == null) {
+            if (applications.containsKey(key) && pendingRouteLoads.add(key)) {
+                refreshExecutor.execute(() -> {
+                    try {
+                        loadRoutes(key);
+                    } finally {
+                        pendingRouteLoads.remove(key);
+                    }
+                });
+            }
+            return List.of();
+        }
+        return routeIndex.index().search(prefix, limit);
+    }
+
+    /**
+     * Fetch a service's route templates from Contrast Security by application ID
+     * and index them. An empty fetch keeps the previous index, or an empty one so
+     * the service is retried on the next background refresh rather than on every search.
+     */
+    private void loadRoutes(String key) {
+        Application app = applications.get(key);
+        if (app == null) {
+            RouteIndex current = routeIndexes.get(key);
+            log.debug("Service {} is not in the application list, keeping its route index",
+                    current != null ? current.serviceName() : key);
+            return;
+        }
+
+        try {
+            indexRoutes(app.name(), contrastClient.retrieveRoutesByAppId(app.appId(), null));
+        } catch (Exception e) {
+            log.error("Error refreshing route search index for service: {}", app.name(), e);
+        }
+        routeIndexes.putIfAbsent(key, new RouteIndex(app.name(), PrefixIndex.empty()));
+    }
+
+    private String serviceKey(String serviceName) {
+        return serviceName.toLowerCase(Locale.ROOT);
+    }
+}
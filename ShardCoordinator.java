@@ -0,0 +1,387 @@
+package com.company.iast.service;
+
+import com.company.iast.model.RouteInfo;
+import com.company.iast.model.RouteShard;
+import com.company.iast.model.RouteTestResult;
+import com.company.iast.model.ShardResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator side of sharded execution. Splits a run's routes into shards,
+ * leases them to worker instances that poll over HTTP, re-leases shards whose
+ * worker stopped sending heartbeats, and merges reported results.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardCoordinator {
+
+    private final RouteLatencyHistory latencyHistory;
+
+    @Value("${cluster.mode:standalone}")
+    private String mode;
+
+    @Value("${cluster.shard-size:50}")
+    private int shardSize;
+
+    @Value("${cluster.lease-timeout:30000}")
+    private long leaseTimeoutMs;
+
+    @Value("${cluster.heartbeat-interval:5000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${cluster.worker-wait:30000}")
+    private long workerWaitMs;
+
+    /**
+     * Thrown when a run's unfinished shards sat unleased for cluster.worker-wait.
+     * Those shards have been withdrawn, so the caller can probe their routes
+     * locally and merge them with the results already reported.
+     */
+    public static class NoWorkersException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<RouteTestResult> completedResults;
+        private final transient List<RouteInfo> withdrawnRoutes;
+
+        public NoWorkersException(String message, List<RouteTestResult> completedResults,
+                                  List<RouteInfo> withdrawnRoutes) {
+            super(message);
+            this.completedResults = completedResults;
+            this.withdrawnRoutes = withdrawnRoutes;
+        }
+
+        public List<RouteTestResult> getCompletedResults() {
+            return completedResults;
+        }
+
+        public List<RouteInfo> getWithdrawnRoutes() {
+            return withdrawnRoutes;
+        }
+    }
+
+    private enum ShardState { PENDING, LEASED, DONE }
+
+    private static class Shard {
+        private final String runId;
+        private final String shardId;
+        private final String baseUrl;
+        private final List<RouteInfo> routes;
+        private final long deadlineNanos;
+        private ShardState state = ShardState.PENDING;
+        private String workerId;
+        private long leaseExpiresNanos;
+        private int leaseCount;
+        private long lastActivityNanos; // Last lease, heartbeat or completion
+        private List<RouteTestResult> results;
+
+        private Shard(String runId, String shardId, String baseUrl, List<RouteInfo> routes, long deadlineNanos) {
+            this.runId = runId;
+            this.shardId = shardId;
+            this.baseUrl = baseUrl;
+            this.routes = routes;
+            this.deadlineNanos = deadlineNanos;
+            this.lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    // Shards of all active runs, in creation order; guarded by `this`
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Whether this instance runs as coordinator and should shard its runs
+     */
+    public boolean isEnabled() {
+        return "coordinator".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Shard the routes, wait for workers to complete them, and merge results.
+     * Routes are dealt round-robin in longest-expected-first order, so every
+     * shard gets a share of the slow routes. Results of each completed shard
+     * are passed to the listener as they arrive; shards still unfinished at
+     * the run deadline are reported as skipped. Throws {@link NoWorkersException}
+     * if the run's unfinished shards sit unleased for cluster.worker-wait.
+     */
+    public List<RouteTestResult> execute(List<RouteInfo> routes, String baseUrl, long deadlineNanos,
+                                         RouteTestListener listener) {
+        String runId = UUID.randomUUID().toString();
+        List<RouteInfo> dispatchOrder = latencyHistory.orderForDispatch(routes, baseUrl);
+        int shardCount = (dispatchOrder.size() + shardSize - 1) / shardSize;
+
+        List<List<RouteInfo>> slices = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < dispatchOrder.size(); i++) {
+            slices.get(i % shardCount).add(dispatchOrder.get(i));
+        }
+
+        List<Shard> runShards = new ArrayList<>();
+        synchronized (this) {
+            for (List<RouteInfo> slice : slices) {
+                Shard shard = new Shard(runId, runId + "-" + runShards.size(), baseUrl,
+                        List.copyOf(slice), deadlineNanos);
+                runShards.add(shard);
+                shards.put(shard.shardId, shard);
+            }
+        }
+        log.info("Run {}: dealt {} routes into {} shards of up to {} routes",
+                runId, routes.size(), runShards.size(), shardSize);
+
+        List<RouteTestResult> results = new ArrayList<>();
+        Set<Shard> collected = new HashSet<>();
+        List<RouteInfo> withdrawn = new ArrayList<>();
+
+        try {
+            try {
+                boolean waiting = true;
+                while (waiting) {
+                    List<RouteTestResult> batch = new ArrayList<>();
+                    synchronized (this) {
+                        collectCompleted(runShards, collected, batch);
+                        if (collected.size() == runShards.size()) {
+                            waiting = false;
+                        } else {
+                            boolean leased = runShards.stream().anyMatch(shard -> shard.state == ShardState.LEASED);
+                            long idleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivityNanos(runShards));
+
+                            long waitMs = leaseTimeoutMs;
+                            if (!leased) {
+                                if (idleMs >= workerWaitMs) {
+                                    // Withdraw under the same lock so no worker can lease them afterwards
+                                    withdrawUnfinished(runShards, collected, withdrawn);
+                                    waiting = false;
+                                }
+                                waitMs = Math.min(waitMs, workerWaitMs - idleMs);
+                            }
+                            if (waiting && deadlineNanos != 0) {
+                                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                                waiting = remainingMs > 0;
+                                waitMs = Math.min(waitMs, remainingMs);
+                            }
+                            if (waiting) {
+                                wait(waitMs);
+                                expireLeases();
+                            }
+                        }
+                    }
+                    // Report outside the lock so a slow listener cannot stall workers
+                    report(batch, results, listener);
+                }
+                if (!withdrawn.isEmpty()) {
+                    throw new NoWorkersException("No worker leased the remaining shards of run " + runId
+                            + " within " + workerWaitMs + " ms", results, withdrawn);
+                }
+            } catch (InterruptedException e) {
+                log.warn("Run {}: interrupted while waiting for workers, returning partial results", runId);
+                Thread.currentThread().interrupt();
+            }
+
+            List<RouteTestResult> remaining = new ArrayList<>();
+            synchronized (this) {
+                collectCompleted(runShards, collected, remaining);
+                for (Shard shard : runShards) {
+                    if (!collected.contains(shard)) {
+                        log.warn("Run {}: shard {} not completed before the deadline", runId, shard.shardId);
+                        for (RouteInfo route : shard.routes) {
+                            remaining.add(RouteTestingService.skippedResult(route, baseUrl));
+                        }
+                    }
+                }
+            }
+            report(remaining, results, listener);
+        } finally {
+            // Drop the run's shards even if the listener failed mid-run
+            synchronized (this) {
+                runShards.forEach(shard -> shards.remove(shard.shardId));
+            }
+            latencyHistory.save();
+        }
+        return results;
+    }
+
+    /**
+     * Lease the next pending shard to a worker, or null if none is available
+     */
+    public synchronized RouteShard lease(String workerId) {
+        expireLeases();
+
+        for (Shard shard : shards.values()) {
+            if (shard.state != ShardState.PENDING) {
+                continue;
+            }
+
+            long timeBudgetMs = 0;
+            if (shard.deadlineNanos != 0) {
+                // Leave one heartbeat interval for the worker to post its results back
+                timeBudgetMs = TimeUnit.NANOSECONDS.toMillis(shard.deadlineNanos - System.nanoTime())
+                        - heartbeatIntervalMs;
+                if (timeBudgetMs <= 0) {
+                    continue;
+                }
+            }
+
+            shard.state = ShardState.LEASED;
+            shard.workerId = workerId;
+            shard.leaseExpiresNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMs);
+            shard.leaseCount++;
+            shard.lastActivityNanos = System.nanoTime();
+            log.info("Leased shard {} ({} routes) to worker {} (lease #{})",
+                    shard.shardId, shard.routes.size(), workerId, shard.leaseCount);
+
+            return RouteShard.builder()
+                    .runId(shard.runId)
+                    .shardId(shard.shardId)
+                    .baseUrl(shard.baseUrl)
+                    .routes(shard.routes)
+                    .timeBudgetMs(timeBudgetMs)
+                    .build();
+        }
+        return null;
+    }
+
+    /**
+     * Extend a worker's lease. Returns false if the shard is no longer leased
+     * to that worker, in which case the worker should abandon it.
+     */
+    public synchronized boolean heartbeat(String workerId, String shardId) {
+        Shard shard = shards.get(shardId);
+        if (shard == null || shard.state != ShardState.LEASED || !workerId.equals(shard.workerId)) {
+            return false;
+        }
+        shard.leaseExpiresNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMs);
+        shard.lastActivityNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Record a worker's results for a shard. The first complete result wins,
+     * so a slow worker whose shard was re-leased can still finish it.
+     * Submissions that do not cover every route of the shard are rejected.
+     */
+    public synchronized boolean complete(ShardResult result) {
+        Shard shard = shards.get(result.getShardId());
+        if (shard == null || shard.state == ShardState.DONE) {
+            log.debug("Ignoring results for unknown or completed shard {} from worker {}",
+                    result.getShardId(), result.getWorkerId());
+            return false;
+        }
+
+        List<String> missing = missingRoutes(shard, result.getResults());
+        if (!missing.isEmpty()) {
+            log.warn("Rejecting results for shard {} from worker {}: no result for {} of {} routes",
+                    shard.shardId, result.getWorkerId(), missing.size(), shard.routes.size());
+            return false;
+        }
+        if (!Objects.equals(result.getWorkerId(), shard.workerId)) {
+            log.info("Shard {} completed by worker {}, which no longer holds the lease (held by {})",
+                    shard.shardId, result.getWorkerId(), shard.workerId);
+        }
+
+        shard.state = ShardState.DONE;
+        shard.results = result.getResults();
+        shard.lastActivityNanos = System.nanoTime();
+        if (result.getLatencyMs() != null) {
+            // Workers probe the routes, so this is the coordinator's only source of history
+            result.getLatencyMs().forEach((path, ms) -> latencyHistory.record(shard.baseUrl, path, ms));
+        }
+        log.info("Shard {} completed by worker {} with {} results",
+                shard.shardId, result.getWorkerId(), shard.results.size());
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Route paths of the shard that have no matching result, counting duplicates
+     */
+    private List<String> missingRoutes(Shard shard, List<RouteTestResult> results) {
+        Map<String, Integer> reported = new HashMap<>();
+        if (results != null) {
+            for (RouteTestResult routeResult : results) {
+                reported.merge(routeResult.getRoute(), 1, Integer::sum);
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (RouteInfo route : shard.routes) {
+            if (reported.merge(route.getPath(), -1, Integer::sum) < 0) {
+                missing.add(route.getPath());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Return shards whose worker missed its heartbeats to the pending pool
+     */
+    private void expireLeases() {
+        long now = System.nanoTime();
+        for (Shard shard : shards.values()) {
+            if (shard.state == ShardState.LEASED && now - shard.leaseExpiresNanos >= 0) {
+                log.warn("Lease on shard {} held by worker {} expired, re-queueing",
+                        shard.shardId, shard.workerId);
+                shard.state = ShardState.PENDING;
+                shard.workerId = null;
+            }
+        }
+    }
+
+    /**
+     * Most recent lease, heartbeat or completion across a run's shards
+     */
+    private long lastActivityNanos(List<Shard> runShards) {
+        long last = runShards.get(0).lastActivityNanos;
+        for (Shard shard : runShards) {
+            if (shard.lastActivityNanos - last > 0) {
+                last = shard.lastActivityNanos;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Remove the run's unfinished shards so no worker can lease them, and
+     * collect their routes for local probing
+     */
+    private void withdrawUnfinished(List<Shard> runShards, Set<Shard> collected, List<RouteInfo> withdrawn) {
+        for (Shard shard : runShards) {
+            if (!collected.contains(shard)) {
+                shards.remove(shard.shardId);
+                withdrawn.addAll(shard.routes);
+            }
+        }
+    }
+
+    /**
+     * Move results of newly completed shards into the batch
+     */
+    private void collectCompleted(List<Shard> runShards, Set<Shard> collected, List<RouteTestResult> batch) {
+        for (Shard shard : runShards) {
+            if (shard.state == ShardState.DONE && collected.add(shard)) {
+                batch.addAll(shard.results);
+            }
+        }
+    }
+
+    private void report(List<RouteTestResult> batch, List<RouteTestResult> results, RouteTestListener listener) {
+        for (RouteTestResult result : batch) {
+            results.add(result);
+            listener.onResult(result);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.iast.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results a worker instance reports back to the coordinator for one shard
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardResult {
+    private String shardId;
+    private String workerId;
+    private List<RouteTestResult> results;
+    private Map<String, Long> latencyMs; // Observed response time per route path, for the coordinator's history
+}
@@ -0,0 +1,224 @@
+package com.company.iast.service;
+
+import com.company.iast.model.RouteShard;
+import com.company.iast.model.RouteTestResult;
+import com.company.iast.model.ShardResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Worker side of sharded execution. Polls the coordinator for shard leases,
+ * probes the leased routes locally, sends heartbeats while working, and
+ * posts the results back. Active only when cluster.mode=worker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cluster.mode", havingValue = "worker")
+public class ShardWorker {
+
+    private final RouteTestingService routeTestingService;
+
+    @Value("${cluster.coordinator-url}")
+    private String coordinatorUrl;
+
+    @Value("${cluster.worker-id:}")
+    private String configuredWorkerId;
+
+    @Value("${cluster.heartbeat-interval:5000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${cluster.poll-interval:2000}")
+    private long pollIntervalMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExecutorService loopExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService shardExecutor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    private String workerId;
+    private volatile boolean running;
+
+    /**
+     * Start polling the coordinator once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        workerId = configuredWorkerId.isBlank() ? "worker-" + UUID.randomUUID() : configuredWorkerId;
+        running = true;
+        log.info("Starting shard worker {} against coordinator {}", workerId, coordinatorUrl);
+        loopExecutor.submit(this::pollLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        loopExecutor.shutdownNow();
+        shardExecutor.shutdownNow();
+        heartbeatExecutor.shutdownNow();
+    }
+
+    private void pollLoop() {
+        // Only stop() ends the loop; a lost lease never interrupts this thread
+        while (running) {
+            try {
+                RouteShard shard = leaseShard();
+                if (shard == null) {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+                    continue;
+                }
+                processShard(shard);
+
+            } catch (InterruptedException e) {
+                log.debug("Shard worker {} interrupted, running={}", workerId, running);
+            } catch (Exception e) {
+                log.error("Error talking to coordinator at {} - {}", coordinatorUrl, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    log.debug("Shard worker {} interrupted, running={}", workerId, running);
+                }
+            }
+        }
+        log.info("Shard worker {} stopped", workerId);
+    }
+
+    /**
+     * Probe a leased shard, heartbeating until done; abandon it if the
+     * coordinator reports the lease was lost
+     */
+    private void processShard(RouteShard shard) throws Exception {
+        log.info("Worker {} processing shard {} ({} routes)",
+                workerId, shard.getShardId(), shard.getRoutes().size());
+
+        long deadlineNanos = shard.getTimeBudgetMs() > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shard.getTimeBudgetMs()) : 0;
+
+        // Probe on a separate thread so a lost lease cancels only this shard, not the poll loop
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        Future<List<RouteTestResult>> probe = shardExecutor.submit(() -> routeTestingService.testAllRoutes(
+                shard.getRoutes(), shard.getBaseUrl(), deadlineNanos, RouteTestListener.NONE));
+
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(() -> {
+            if (!sendHeartbeat(shard.getShardId()) && leaseLost.compareAndSet(false, true)) {
+                log.warn("Lease on shard {} lost, abandoning it", shard.getShardId());
+                probe.cancel(true);
+            }
+        }, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+
+        List<RouteTestResult> results;
+        try {
+            results = probe.get();
+        } catch (CancellationException e) {
+            // Lease lost mid-shard; another worker owns it now
+            return;
+        } finally {
+            heartbeat.cancel(false);
+            if (!probe.isDone()) {
+                // Shutting down while waiting; stop probing too
+                probe.cancel(true);
+            }
+        }
+
+        // Submit even if the lease was lost after probing finished: the first
+        // complete result wins, so the shard need not be probed again
+        Map<String, Long> latencyMs = new HashMap<>();
+        for (RouteTestResult result : results) {
+            if (!result.isSkipped()) {
+                latencyMs.put(result.getRoute(), result.getResponseTimeMs());
+            }
+        }
+
+        submitResults(ShardResult.builder()
+                .shardId(shard.getShardId())
+                .workerId(workerId)
+                .results(results)
+                .latencyMs(latencyMs)
+                .build());
+    }
+
+    private RouteShard leaseShard() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(coordinatorUrl + "/api/cluster/lease?workerId=" + encode(workerId)))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 204) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Lease request failed with status " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), RouteShard.class);
+    }
+
+    private boolean sendHeartbeat(String shardId) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(coordinatorUrl + "/api/cluster/heartbeat?workerId=" + encode(workerId)
+                            + "&shardId=" + encode(shardId)))
+                    .timeout(Duration.ofSeconds(10))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+
+        } catch (Exception e) {
+            // Transient failure; the coordinator re-leases the shard if heartbeats stay missing
+            log.warn("Heartbeat for shard {} failed - {}", shardId, e.getMessage());
+            return true;
+        }
+    }
+
+    private void submitResults(ShardResult result) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(coordinatorUrl + "/api/cluster/shards/" + encode(result.getShardId()) + "/result"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(result)))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        log.info("Worker {} submitted shard {} ({} results), coordinator replied {}",
+                workerId, result.getShardId(), result.getResults().size(), response.statusCode());
+    }
+
+    private String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
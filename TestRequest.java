@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 
 /**
  * Request payload for starting route testing
@@ -26,4 +27,7 @@ public class TestRequest {
     private String baseRouteUrl;
     
     private String environment = "qa";
+
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMs; // Optional overall run deadline, overrides route.testing.time-budget
 }
@@ -20,6 +20,8 @@ public class TestResponse {
     private int totalRoutes;
     private int passedRoutes;
     private int failedRoutes;
+    private int skippedRoutes;
+    private boolean partial; // True when the run time budget cut the run short
     private List<RouteTestResult> results;
     private long totalDurationMs;
 }
@@ -29,6 +29,13 @@ export OCP_NAMESPACE="${OCP_NAMESPACE:-qa}"
 echo "Environment variables set (using placeholders if not provided)"
 echo ""
 
+# Startup-optimized profile for ephemeral CI agents
+if [ "$FAST_STARTUP" = "true" ]; then
+    export SPRING_PROFILES_ACTIVE="fast-startup"
+    echo "✓ Fast-startup profile enabled"
+    echo ""
+fi
+
 # Build the application
 echo "Building application with Gradle..."
 ./gradlew clean build -x test
@@ -43,9 +50,11 @@ if [ $? -eq 0 ]; then
     echo ""
     echo "API Endpoints:"
     echo "  - POST http://localhost:8080/api/test"
+    echo "  - POST http://localhost:8080/api/test/stream"
     echo "  - GET  http://localhost:8080/api/health"
     echo "  - GET  http://localhost:8080/api/contrast/test-connection"
     echo "  - GET  http://localhost:8080/api/openshift/route?serviceName=xxx"
+    echo "  - GET  http://localhost:8080/api/search?q=xxx"
     echo ""
     
     ./gradlew bootRun
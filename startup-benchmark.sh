@@ -0,0 +1,93 @@
+#!/bin/bash
+
+# IAST Route Monitor - Startup Benchmark
+#
+# Measures time-to-first-request (process launch until GET /api/health
+# answers) for each startup mode:
+#   default        - plain jar, default profile
+#   fast-startup   - fast-startup profile (lazy OpenShift client, trimmed auto-configuration)
+#   fast-startup+cds - fast-startup profile with a Class Data Sharing archive
+#
+# Usage: ./startup-benchmark.sh [runs]
+#   AOT=true ./startup-benchmark.sh   # also build with Spring AOT and enable it for the fast modes
+
+RUNS="${1:-5}"
+PORT="${BENCHMARK_PORT:-18080}"
+WORK_DIR="build/startup-benchmark"
+MAIN_CLASS="com.company.iast.IASTRouteMonitorApplication"
+
+echo "======================================"
+echo "IAST Route Monitor - Startup Benchmark"
+echo "======================================"
+echo ""
+
+# Build the jar (with AOT-generated sources if requested)
+if [ "$AOT" = "true" ]; then
+    echo "Building application with Spring AOT..."
+    ./gradlew clean bootJar -Paot -q || { echo "❌ Build failed"; exit 1; }
+    FAST_FLAGS="-Dspring.aot.enabled=true"
+else
+    echo "Building application..."
+    ./gradlew clean bootJar -q || { echo "❌ Build failed"; exit 1; }
+    FAST_FLAGS=""
+fi
+
+JAR=$(ls build/libs/*.jar | grep -v plain | head -n 1)
+
+# CDS only archives classes loaded from plain jars: no nested jars of the fat jar,
+# and no non-empty directories on the classpath, so repackage BOOT-INF/classes too
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR/app"
+(cd "$WORK_DIR/app" && unzip -q "$OLDPWD/$JAR")
+jar cf "$WORK_DIR/app-classes.jar" -C "$WORK_DIR/app/BOOT-INF/classes" . || { echo "❌ Packaging application classes failed"; exit 1; }
+# paste avoids a trailing ':', which would put the current directory on the classpath
+CLASSPATH="$WORK_DIR/app-classes.jar:$(ls "$WORK_DIR"/app/BOOT-INF/lib/*.jar | sort | paste -sd ':' -)"
+
+# Launch the app, poll until the first request succeeds, print elapsed ms
+time_to_first_request() {
+    local start end pid
+    start=$(date +%s%N)
+    java "$@" -cp "$CLASSPATH" "$MAIN_CLASS" --server.port="$PORT" > "$WORK_DIR/run.log" 2>&1 &
+    pid=$!
+
+    until curl -sf "http://localhost:$PORT/api/health" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "❌ Application exited during startup, see $WORK_DIR/run.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+
+    kill "$pid" && wait "$pid" 2> /dev/null
+    echo $(( (end - start) / 1000000 ))
+}
+
+benchmark() {
+    local name="$1"
+    shift
+    local total=0 min=0 ms
+    for ((i = 1; i <= RUNS; i++)); do
+        ms=$(time_to_first_request "$@") || exit 1
+        total=$((total + ms))
+        if [ "$min" -eq 0 ] || [ "$ms" -lt "$min" ]; then
+            min=$ms
+        fi
+    done
+    printf "  %-18s avg %6d ms   min %6d ms\n" "$name" $((total / RUNS)) "$min"
+}
+
+# Training run: start until the context is refreshed, then dump the loaded classes
+echo "Creating CDS archive..."
+java -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.context.exit=onRefresh $FAST_FLAGS \
+    -Dspring.profiles.active=fast-startup -cp "$CLASSPATH" "$MAIN_CLASS" > "$WORK_DIR/cds.log" 2>&1
+if [ ! -s "$WORK_DIR/app.jsa" ]; then
+    echo "❌ CDS archive was not created, see $WORK_DIR/cds.log"
+    exit 1
+fi
+
+echo ""
+echo "Time to first request ($RUNS runs each):"
+benchmark "default"
+benchmark "fast-startup" $FAST_FLAGS -Dspring.profiles.active=fast-startup
+benchmark "fast-startup+cds" -XX:SharedArchiveFile="$WORK_DIR/app.jsa" $FAST_FLAGS -Dspring.profiles.active=fast-startup